@@ -23,14 +23,14 @@ public class Chip8System {
     private short indexRegister = 0;
     private short programCounter = 0x200;
     private short stackPointer = 0; // Points to the next empty index of the stack.
+    private long cycleCount = 0;
 
     // Timers
     private byte delay_timer = 60;
     private byte sound_timer = 60;
 
     // Keyboard
-    private boolean[] keys;
-    private byte lastKeyPressed = -1;
+    private final Keypad keypad = new Keypad();
 
     // One font character is 5 pixels tall, each pixel represented by a byte.
     private final int[] CHIP8_FONTSET =
@@ -91,26 +91,9 @@ public class Chip8System {
         return pixels;
     }
 
-    // Updates the state of all keys on the keypad.
-    public void setKeys(boolean[] keys) {
-        this.keys = keys;
-    }
-
-    // Updates the last key pressed
-    public void setLastKeyPressed(byte key) {
-        lastKeyPressed = key;
-    }
-
-    // Returns how many keys are currently pressed down.
-    public int getNumberOfKeysPressed() {
-        int keysPressed = 0;
-
-        for (int i = 0; i < keys.length; i++) {
-            if (keys[i])
-                keysPressed++;
-        }
-
-        return keysPressed;
+    // Returns the keypad, which key events are posted to
+    public Keypad getKeypad() {
+        return keypad;
     }
 
     // Returns the pixel state at coordinate (x, y)
@@ -125,6 +108,9 @@ public class Chip8System {
 
     // Emulates a single cycle of the Chip8 CPU
     public void emulateCycle() {
+        // Apply any key events posted since the last instruction
+        keypad.drain(cycleCount);
+
         // Fetch Opcode
         opcode = (short)((memory[programCounter] << 8) | (memory[programCounter + 1] & 0x00FF));
 
@@ -391,7 +377,7 @@ public class Chip8System {
                     case 0x009E: // 0xEX9E: Skips the next instruction if the key stored in VX is pressed.
                         System.out.println(String.format("0x%04x: skips the next instruction if the key in register[%d] is pressed", opcode, X));
 
-                        if (keys[registers[X]])
+                        if (keypad.isPressed(registers[X]))
                             programCounter += 4;
                         else
                             programCounter += 2;
@@ -401,7 +387,7 @@ public class Chip8System {
                     case 0x00A1: // 0xEXA1: Skips the next instruction if the key stored in VX isn't pressed.
                         System.out.println(String.format("0x%04x: skips the next instruction if the key in register[%d] isn't pressed", opcode, X));
 
-                        if (!keys[registers[X]])
+                        if (!keypad.isPressed(registers[X]))
                             programCounter += 4;
                         else
                             programCounter += 2;
@@ -426,8 +412,10 @@ public class Chip8System {
                     case 0x000A: //0xFX0A: A key press is awaited, and then stored in VX.
                         System.out.println(String.format("0x%04x: waits for a key press and stores it in register[%d]", opcode, X));
 
-                        if (getNumberOfKeysPressed() > 0) {
-                            registers[X] = lastKeyPressed;
+                        byte key = keypad.awaitKey();
+
+                        if (key != Keypad.NO_KEY) {
+                            registers[X] = key;
                             programCounter += 2;
                         }
 
@@ -516,5 +504,7 @@ public class Chip8System {
 
             sound_timer--;
         }
+
+        cycleCount++;
     }
 }
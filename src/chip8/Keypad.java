@@ -0,0 +1,122 @@
+package chip8;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+public class Keypad {
+    public static final byte NO_KEY = -1;
+
+    // A single press or release, stamped with the host time it was posted
+    private static class KeyEvent {
+        private final byte key;
+        private final boolean pressed;
+        private final long postedAt;
+
+        private KeyEvent(byte key, boolean pressed, long postedAt) {
+            this.key = key;
+            this.pressed = pressed;
+            this.postedAt = postedAt;
+        }
+    }
+
+    // Events waiting to be applied by the core at the next instruction boundary.
+    // Key handlers and the game loop both run on the JavaFX application thread, as does everything else in this class.
+    private final ConcurrentLinkedQueue<KeyEvent> pendingEvents = new ConcurrentLinkedQueue<>();
+
+    // Key state as seen by the core
+    private final boolean[] keys = new boolean[16];
+
+    // FX0A state: a key must be pressed and then released while waiting
+    private boolean awaitingKey = false;
+    private byte awaitedKey = NO_KEY;
+    private byte releasedKey = NO_KEY;
+
+    // Event-to-core latency measurement
+    private long lastEventCycle = -1;
+    private long eventsApplied = 0;
+    private long totalLatencyNanos = 0;
+    private long maxLatencyNanos = 0;
+
+    // Queues a key press or release
+    public void post(byte key, boolean pressed) {
+        if (key < 0 || key >= keys.length)
+            return;
+
+        pendingEvents.offer(new KeyEvent(key, pressed, System.nanoTime()));
+    }
+
+    // Applies all queued events on the given emulated cycle. Called by the core at an instruction boundary.
+    public void drain(long cycle) {
+        KeyEvent event;
+
+        while ((event = pendingEvents.poll()) != null) {
+            // Ignore auto-repeated presses and duplicate releases, only state changes count
+            if (keys[event.key] == event.pressed)
+                continue;
+
+            keys[event.key] = event.pressed;
+
+            if (awaitingKey) {
+                if (event.pressed && awaitedKey == NO_KEY)
+                    awaitedKey = event.key;
+                else if (!event.pressed && event.key == awaitedKey)
+                    releasedKey = event.key;
+            }
+
+            long latencyNanos = System.nanoTime() - event.postedAt;
+            totalLatencyNanos += latencyNanos;
+            maxLatencyNanos = Math.max(maxLatencyNanos, latencyNanos);
+
+            eventsApplied++;
+            lastEventCycle = cycle;
+        }
+    }
+
+    // Returns whether the specified key is currently pressed. Keys outside 0x0-0xF are never pressed.
+    public boolean isPressed(int key) {
+        if (key < 0 || key >= keys.length)
+            return false;
+
+        return keys[key];
+    }
+
+    // Used by FX0A. Starts waiting on the first call, then returns the key once it has been pressed and released,
+    // or NO_KEY while still waiting. Keys already held down when the wait begins are ignored.
+    public byte awaitKey() {
+        if (!awaitingKey) {
+            awaitingKey = true;
+            awaitedKey = NO_KEY;
+            releasedKey = NO_KEY;
+            return NO_KEY;
+        }
+
+        if (releasedKey == NO_KEY)
+            return NO_KEY;
+
+        byte key = releasedKey;
+        awaitingKey = false;
+        awaitedKey = NO_KEY;
+        releasedKey = NO_KEY;
+        return key;
+    }
+
+    // Returns the emulated cycle on which the most recent event was applied, or -1 if none have been
+    public long getLastEventCycle() {
+        return lastEventCycle;
+    }
+
+    // Returns how many key state changes the core has applied
+    public long getEventsApplied() {
+        return eventsApplied;
+    }
+
+    // Returns the average host time between an event being posted and the core applying it,
+    // i.e. the wait for the next game loop tick
+    public long getAverageLatencyNanos() {
+        return eventsApplied == 0 ? 0 : totalLatencyNanos / eventsApplied;
+    }
+
+    // Returns the longest time between an event being posted and the core applying it
+    public long getMaxLatencyNanos() {
+        return maxLatencyNanos;
+    }
+}
@@ -7,12 +7,14 @@ import javafx.application.Application;
 import javafx.scene.Scene;
 import javafx.scene.canvas.Canvas;
 import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.input.KeyCode;
 import javafx.scene.layout.StackPane;
 import javafx.scene.paint.Color;
 import javafx.stage.Stage;
 import javafx.util.Duration;
 
 import java.io.IOException;
+import java.util.Arrays;
 
 public class Main extends Application {
     private final int SCREEN_WIDTH = 64;
@@ -27,7 +29,31 @@ public class Main extends Application {
     private final Color drawColor = Color.WHITE;
     private final Color backgroundColor = Color.BLACK;
 
-    private boolean[] keys = new boolean[16];
+    private Chip8System chip8System;
+
+    // Maps each KeyCode (by ordinal) to its CHIP8 keypad input, or Keypad.NO_KEY if unmapped
+    private static final byte[] KEY_MAP = new byte[KeyCode.values().length];
+
+    static {
+        Arrays.fill(KEY_MAP, Keypad.NO_KEY);
+
+        KEY_MAP[KeyCode.X.ordinal()] = 0;
+        KEY_MAP[KeyCode.DIGIT1.ordinal()] = 1;
+        KEY_MAP[KeyCode.DIGIT2.ordinal()] = 2;
+        KEY_MAP[KeyCode.DIGIT3.ordinal()] = 3;
+        KEY_MAP[KeyCode.Q.ordinal()] = 4;
+        KEY_MAP[KeyCode.W.ordinal()] = 5;
+        KEY_MAP[KeyCode.E.ordinal()] = 6;
+        KEY_MAP[KeyCode.A.ordinal()] = 7;
+        KEY_MAP[KeyCode.S.ordinal()] = 8;
+        KEY_MAP[KeyCode.D.ordinal()] = 9;
+        KEY_MAP[KeyCode.Z.ordinal()] = 10;
+        KEY_MAP[KeyCode.C.ordinal()] = 11;
+        KEY_MAP[KeyCode.DIGIT4.ordinal()] = 12;
+        KEY_MAP[KeyCode.R.ordinal()] = 13;
+        KEY_MAP[KeyCode.F.ordinal()] = 14;
+        KEY_MAP[KeyCode.V.ordinal()] = 15;
+    }
 
     @Override
     public void start(Stage mainStage) {
@@ -36,7 +62,7 @@ public class Main extends Application {
 
     private void startEmulation(Stage mainStage) {
         // Initializes a new Chip8 system
-        Chip8System chip8System = new Chip8System(SCREEN_WIDTH, SCREEN_HEIGHT);
+        chip8System = new Chip8System(SCREEN_WIDTH, SCREEN_HEIGHT);
 
         // Creates screen and enables key press listeners
         setupGraphics(mainStage);
@@ -54,58 +80,23 @@ public class Main extends Application {
 
             if (chip8System.getDrawFlag())
                 drawGraphics(chip8System);
-
-            // Tells the chip8 system which keys are currently pressed.
-            chip8System.setKeys(keys);
         }));
 
         timeline.setCycleCount(Animation.INDEFINITE);
         timeline.play();
     }
 
-    // Watches for button presses and releases
+    // Watches for button presses and releases, queueing them for the chip8 system to apply between instructions
     private void setupInput(Chip8System chip8System) {
-        mainScene.setOnKeyPressed(event -> {
-            String codeString = event.getCode().toString();
-            byte keyPad = convertKeyPressToKeyPad(codeString);
-            chip8System.setLastKeyPressed(keyPad);
-            toggleKey(keyPad, true);
-        });
-
-        mainScene.setOnKeyReleased(event -> {
-            String codeString = event.getCode().toString();
-            byte keyPad = convertKeyPressToKeyPad(codeString);
-            toggleKey(keyPad, false);
-        });
-    }
-
-    // Converts the key that the user pressed on their keyboard to the corresponding CHIP8 keypad input
-    private byte convertKeyPressToKeyPad(String codeString) {
-        switch (codeString) {
-            case "X": return 0;
-            case "DIGIT1": return 1;
-            case "DIGIT2": return 2;
-            case "DIGIT3": return 3;
-            case "Q": return 4;
-            case "W": return 5;
-            case "E": return 6;
-            case "A": return 7;
-            case "S": return 8;
-            case "D": return 9;
-            case "Z": return 10;
-            case "C": return 11;
-            case "DIGIT4": return 12;
-            case "R": return 13;
-            case "F": return 14;
-            case "V": return 15;
-        }
+        Keypad keypad = chip8System.getKeypad();
 
-        return -1;
+        mainScene.setOnKeyPressed(event -> keypad.post(convertKeyPressToKeyPad(event.getCode()), true));
+        mainScene.setOnKeyReleased(event -> keypad.post(convertKeyPressToKeyPad(event.getCode()), false));
     }
 
-    // Presses or unpresses the specified key
-    private void toggleKey(byte keyPad, Boolean isPressed) {
-        keys[keyPad] = isPressed;
+    // Converts the key that the user pressed on their keyboard to the corresponding CHIP8 keypad input
+    private byte convertKeyPressToKeyPad(KeyCode code) {
+        return KEY_MAP[code.ordinal()];
     }
 
     // Sets up the javafx graphics
@@ -139,6 +130,18 @@ public class Main extends Application {
         chip8System.setDrawFlag(false);
     }
 
+    // Reports how long key events waited before the chip8 system applied them
+    @Override
+    public void stop() {
+        if (chip8System == null)
+            return;
+
+        Keypad keypad = chip8System.getKeypad();
+        System.out.println(String.format("Input latency: %d events, avg %.3f ms, max %.3f ms, last applied on cycle %d",
+                keypad.getEventsApplied(), keypad.getAverageLatencyNanos() / 1e6, keypad.getMaxLatencyNanos() / 1e6,
+                keypad.getLastEventCycle()));
+    }
+
     public static void main(String[] args) {
         launch(args);
     }